@@ -0,0 +1,73 @@
+package com.github.tomeees.scrollpicker;
+
+import androidx.annotation.DrawableRes;
+
+/**
+ * An item of the {@link ScrollPicker} that is displayed as an image, optionally with a label after it.
+ * <p>
+ * The image is decoded off the main thread, downsampled to the height of a row and kept in a memory-bounded cache,
+ * and only the rows that are visible (or about to be) hold on to their images.
+ * </p>
+ * <p>
+ * The value of a list of these is the index of the selected item, the same as with other non-Integer items.
+ * </p>
+ */
+public class ImageItem {
+
+    protected static final int NO_RESOURCE = 0;
+
+    protected final int drawableResId;
+    protected final String filePath;
+    protected final String label;
+
+    /**
+     * @param drawableResId A bitmap, vector or color drawable resource. Color resources get displayed as square swatches.
+     */
+    public ImageItem( @DrawableRes int drawableResId ) {
+        this( drawableResId, null );
+    }
+
+    /**
+     * @param drawableResId A bitmap, vector or color drawable resource. Color resources get displayed as square swatches.
+     * @param label         The text displayed after the image. Can be null.
+     */
+    public ImageItem( @DrawableRes int drawableResId, String label ) {
+        this.drawableResId = drawableResId;
+        this.filePath = null;
+        this.label = label;
+    }
+
+    /**
+     * @param filePath Path of an image file that {@link android.graphics.BitmapFactory} can decode.
+     * @param label    The text displayed after the image. Can be null.
+     */
+    public ImageItem( String filePath, String label ) {
+        this.drawableResId = NO_RESOURCE;
+        this.filePath = filePath;
+        this.label = label;
+    }
+
+    @DrawableRes
+    public int getDrawableResId() {
+        return drawableResId;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    // identifies the decoded bitmap in the cache, the same image downsampled to a different height is a different entry
+    String getCacheKey( int height ) {
+        return ( filePath != null ? filePath : "res:" + drawableResId ) + "@" + height;
+    }
+
+    // this is what gets displayed as the content description and as the selected item's text
+    @Override
+    public String toString() {
+        return label == null ? "" : label;
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.tomeees.scrollpicker;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.collection.LruCache;
+import androidx.core.content.ContextCompat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Decodes the images of ImageItems off the main thread, downsampled to the requested height.
+ * The cache is shared by every ScrollPicker in the process and is bounded by bytes, not by entry count, so the memory use
+ * doesn't depend on how many items there are in the lists.
+ */
+class ImageLoader {
+
+    protected static final int CACHE_MEMORY_FRACTION = 8; // this part of the max heap can be used for the cached bitmaps
+    protected static final int DECODER_THREAD_COUNT = 2;
+
+    protected static ImageLoader instance;
+
+    protected final Context context;
+    protected final LruCache< String, Bitmap > cache;
+    protected final ExecutorService executor = Executors.newFixedThreadPool( DECODER_THREAD_COUNT );
+    protected final Handler mainHandler = new Handler( Looper.getMainLooper() );
+
+    static ImageLoader getInstance( Context context ) {
+        if( instance == null )
+            instance = new ImageLoader( context.getApplicationContext() );
+        return instance;
+    }
+
+    protected ImageLoader( Context context ) {
+        this.context = context;
+        int cacheSizeBytes = (int)Math.min( Runtime.getRuntime().maxMemory() / CACHE_MEMORY_FRACTION, Integer.MAX_VALUE );
+        cache = new LruCache< String, Bitmap >( cacheSizeBytes ) {
+            @Override
+            protected int sizeOf( String key, Bitmap bitmap ) {
+                return bitmap.getRowBytes() * bitmap.getHeight();
+            }
+        };
+    }
+
+    /**
+     * Delivers the image of the item on the main thread, synchronously if it is in the cache.
+     *
+     * @return The request which can be cancelled if the image is no longer needed, or null if it has already been delivered.
+     */
+    Request load( ImageItem item, int height, OnImageLoadedListener listener ) {
+        Bitmap cachedBitmap = cache.get( item.getCacheKey( height ) );
+        if( cachedBitmap != null ) {
+            listener.onImageLoaded( cachedBitmap );
+            return null;
+        }
+        Request request = new Request( item, height, listener );
+        executor.execute( request );
+        return request;
+    }
+
+    protected Bitmap decode( ImageItem item, int height ) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        decodeBitmap( item, options );
+        if( options.outHeight <= 0 ) // not a bitmap, e.g. a vector or a color
+            return drawDrawable( item, height );
+
+        options.inSampleSize = calculateInSampleSize( options.outHeight, height );
+        options.inJustDecodeBounds = false;
+        return decodeBitmap( item, options );
+    }
+
+    protected Bitmap decodeBitmap( ImageItem item, BitmapFactory.Options options ) {
+        if( item.getFilePath() != null )
+            return BitmapFactory.decodeFile( item.getFilePath(), options );
+        return BitmapFactory.decodeResource( context.getResources(), item.getDrawableResId(), options );
+    }
+
+    // the largest power of 2 that keeps the decoded height at least the requested height
+    protected int calculateInSampleSize( int imageHeight, int height ) {
+        int inSampleSize = 1;
+        while( imageHeight / ( inSampleSize * 2 ) >= height )
+            inSampleSize *= 2;
+        return inSampleSize;
+    }
+
+    protected Bitmap drawDrawable( ImageItem item, int height ) {
+        if( item.getFilePath() != null )
+            return null;
+        Drawable drawable = ContextCompat.getDrawable( context, item.getDrawableResId() );
+        if( drawable == null )
+            return null;
+        int width = height; // drawables without an intrinsic size (like colors) become square swatches
+        if( drawable.getIntrinsicHeight() > 0 && drawable.getIntrinsicWidth() > 0 )
+            width = Math.max( 1, height * drawable.getIntrinsicWidth() / drawable.getIntrinsicHeight() );
+        Bitmap bitmap = Bitmap.createBitmap( width, height, Bitmap.Config.ARGB_8888 );
+        drawable.setBounds( 0, 0, width, height );
+        drawable.draw( new Canvas( bitmap ) );
+        return bitmap;
+    }
+
+    interface OnImageLoadedListener {
+        void onImageLoaded( Bitmap bitmap ); // always called on the main thread
+    }
+
+    class Request implements Runnable {
+
+        protected final ImageItem item;
+        protected final int height;
+        protected final OnImageLoadedListener listener;
+        protected volatile boolean isCancelled = false;
+
+        Request( ImageItem item, int height, OnImageLoadedListener listener ) {
+            this.item = item;
+            this.height = height;
+            this.listener = listener;
+        }
+
+        void cancel() {
+            isCancelled = true;
+        }
+
+        @Override
+        public void run() {
+            if( isCancelled ) // the row has been scrolled far away before we got to it
+                return;
+            String key = item.getCacheKey( height );
+            Bitmap bitmap = cache.get( key );
+            if( bitmap == null ) {
+                bitmap = decode( item, height );
+                if( bitmap == null )
+                    return;
+                cache.put( key, bitmap );
+            }
+            final Bitmap result = bitmap;
+            mainHandler.post( new Runnable() {
+                @Override
+                public void run() {
+                    if( !isCancelled )
+                        listener.onImageLoaded( result );
+                }
+            } );
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.tomeees.scrollpicker;
+
+import java.util.Collection;
+
+/**
+ * A titled group of consecutive items for {@link ScrollPicker#setSectionedItems(java.util.List)}, e.g. the time zones of a region.
+ */
+public class ItemSection {
+
+    protected final String title;
+    protected final Collection items;
+
+    /**
+     * @param title Displayed in the section indicator while an item of this section is selected.
+     * @param items The items of the section, can be empty.
+     */
+    public ItemSection( String title, Collection items ) {
+        this.title = title;
+        this.items = items;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Collection getItems() {
+        return items;
+    }
+}
@@ -3,24 +3,39 @@ package com.github.tomeees.scrollpicker;
 import android.animation.ObjectAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.Typeface;
+import android.graphics.drawable.BitmapDrawable;
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.ImageSpan;
 import android.util.AttributeSet;
+import android.util.SparseArray;
 import android.util.TypedValue;
+import android.view.InputDevice;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.view.ViewTreeObserver;
+import android.view.animation.AnimationUtils;
 import android.view.animation.LinearInterpolator;
 import android.widget.LinearLayout;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.widget.AppCompatTextView;
 import androidx.core.content.ContextCompat;
+import androidx.core.view.InputDeviceCompat;
+import androidx.core.view.MotionEventCompat;
+import androidx.core.view.ViewCompat;
+import androidx.core.view.ViewConfigurationCompat;
 import androidx.core.widget.NestedScrollView;
 import androidx.core.widget.TextViewCompat;
 import androidx.databinding.BindingAdapter;
@@ -29,8 +44,8 @@ import androidx.databinding.ObservableField;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static android.view.Gravity.CENTER;
@@ -43,11 +58,16 @@ import static android.view.Gravity.CENTER;
  *
  * Glossary:
  * value    - In case of Ints the value you'll get back will be the selected int item itself, in the other cases it will be the item's index.
+ *            (this includes ImageItems, which are displayed as images with an optional label)
  * selector - The visual indication about the currently selected item at the middle of the view
+ * index    - An item's index in the list that was set.
+ * position - An item's place among the displayed items. Equals its index unless there is a filter set, then only the matching items have positions.
+ * section  - A titled group of consecutive items. The title of the selected item's section is displayed at the top of the view.
  *
  * Notes:
  * - You can't have the items displayed in a loop (like as with wrapSelectorWheel in NumberPicker).
  * - The user can't edit the items from the UI.
+ * - Mouse wheels and trackpads step the items when hovering over the view, rotary encoders when the view is focused.
  *
  *
  * Licence: Apache-2.0 (do with it whatever you please)
@@ -82,25 +102,41 @@ public class ScrollPicker extends LinearLayout {
     protected static final float SELECTED_TEXT_SIZE_DEFAULT = TEXT_SIZE_DEFAULT;
     protected static final int SCROLL_INTO_PLACE_DURATION_MS_DEFAULT = 120;
     protected static final int SELECTOR_STYLE_DEFAULT_INDEX = 2; // corresponds to the classic style
+    protected static final int WHEEL_EFFECT_DEFAULT_INDEX = 0; // corresponds to no effect
+    protected static final float WHEEL_EDGE_ALPHA = 0.3f; // the alpha of the rows at the top and bottom edges with a wheel effect
+    protected static final float CYLINDER_EDGE_SCALE = 0.85f;
+    protected static final float CYLINDER_EDGE_ROTATION_DEGREES = 70;
+    protected static final float MAGNIFIER_EDGE_SCALE = 0.6f;
     protected static final int SELECTOR_STROKE_WIDTH = 4;
     protected static final int SELECTED_INDEX_DEFAULT = 0;
     protected static final int AUTO_SIZE_MIN_TEXT_SIZE = 2;
     protected static final int AUTO_SIZE_STEP_GRANULARITY = 1;
+    protected static final float AUTO_REPEAT_START_SPEED = 6; // items per second when a long press above or below the selector starts stepping
+    protected static final float AUTO_REPEAT_ACCELERATION = 12; // items per second, per second of holding
+    protected static final float AUTO_REPEAT_MAX_SPEED = 40;
+    protected static final int SCROLL_EVENT_IDLE_TIMEOUT_MS = 150; // the wheel stepping ends this long after the last scroll event
+    protected static final float IMAGE_HEIGHT_RATIO = 0.8f; // the height of an ImageItem's image compared to the cell height
+    protected static final String IMAGE_SPAN_PLACEHOLDER = " "; // the character that the image span replaces in the row's text
+    protected static final int SECTION_INDICATOR_TEXT_SIZE_SP = 12;
+    protected static final int SECTION_INDICATOR_PADDING_DP = 4;
+    protected static final OnValueChangeListener[] NO_LISTENERS = new OnValueChangeListener[ 0 ];
     protected static int SELECTOR_COLOR_DEFAULT;
     protected static int TEXT_COLOR_DISABLED;
     protected static int TEXT_COLOR_DEFAULT;
     protected int SELECTED_TEXT_COLOR_DEFAULT;
     protected final float TOUCH_SLOP = ViewConfiguration.get( getContext() ).getScaledTouchSlop();
+    protected final int LONG_PRESS_TIMEOUT_MS = ViewConfiguration.getLongPressTimeout();
 
     protected ArrayList items; // the items that we display
     protected Rect selectPreviousItemRect; // the touch area rectangle for the select previous item functionality
     protected Rect selectNextItemRect; // the touch area rectangle for the select next item functionality
     protected ListItemType listItemType;
+    protected Integer intRangeStart; // the first item if the items are consecutive ascending Integers, so values can be looked up without a search
     protected Context context;
     int shownItemCount = SHOWN_ITEM_COUNT_DEFAULT; // how many items can be shown at a time
     protected int spaceCellCount; // how many cells equate to the height of the space before (and after) the text views
     int cellHeight; // (approximate) height of one item
-    protected List< OnValueChangeListener > onValueChangeListeners = new LinkedList<>();
+    protected OnValueChangeListener[] onValueChangeListeners = NO_LISTENERS; // copy-on-write, so dispatching can iterate it without allocation
     protected Paint selectorPaint;
     protected Rect selectorRect;
     protected float mStartY;
@@ -109,12 +145,47 @@ public class ScrollPicker extends LinearLayout {
     protected boolean areItemsSet = false;
     protected int selectedItemIndex = SELECTED_INDEX_DEFAULT;
     protected Runnable scrollerTask;
+    protected boolean isScrollStopCheckPending = false; // is the scrollerTask posted
+    protected ObjectAnimator scrollYAnimator; // the one currently scrolling the list into place, if any
+    protected boolean isAttached = false;
+    protected boolean isInitialScrollPending = false; // is there a scroll to the selected item waiting for the next layout
+    protected Runnable autoRepeatStarter; // starts the auto-repeat stepping when the touch has been held long enough
+    protected Runnable autoRepeatFrameTask; // scrolls on with every frame while the auto-repeat stepping goes on
+    protected boolean isAutoRepeating = false;
+    protected int autoRepeatDirection; // -1 towards the previous items, 1 towards the next ones
+    protected long autoRepeatStartTime, autoRepeatLastFrameTime;
+    protected float autoRepeatScrollY; // fractional, so slow speeds still move the list
+    protected int autoRepeatStartIndex; // the listeners only get notified once, at the end, if the selection differs from this
+    protected Runnable scrollEventFrameTask; // scrolls on with every frame while the mouse wheel / rotary input keeps stepping
+    protected boolean isScrollEventStepping = false;
+    protected float pendingScrollSteps; // fractional, e.g. trackpads send less than a step at a time
+    protected int scrollEventTargetPosition; // where the steps so far take us
+    protected float scrollEventScrollY; // fractional, so the approach to the target stays smooth
+    protected long scrollEventLastFrameTime, lastScrollEventTime;
+    protected int scrollEventStartIndex; // the listeners only get notified once, at the end, if the selection differs from this
+    protected boolean isLazy = false; // should the rows be built only when we first become visible
+    protected boolean hasBeenVisible = false;
+    protected boolean isWaitingForVisibility = false; // is the building of the rows deferred until we become visible
+    protected final Rect visibleRect = new Rect();
+    protected final ViewTreeObserver.OnPreDrawListener firstVisibilityListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            if( !isShown() || !getGlobalVisibleRect( visibleRect ) ) // e.g. we are scrolled out of the screen in the parent
+                return true;
+            stopWaitingForVisibility();
+            hasBeenVisible = true;
+            initScrollView();
+            return false; // the rows need a layout before this frame gets drawn
+        }
+    };
     protected int lastScrollY;
     protected AtomicInteger scrollYTo = new AtomicInteger();
     protected float textSize;
     protected int enabledTextColor, selectedTextColor;
     protected boolean isEnabled;
     protected Integer storedValue; // was there a value set yet and what was it
+    protected Integer restoredItemIndex; // the selected index from the restored instance state until the rows get positioned with it
+    protected float restoredScrollOffset; // how far the list was scrolled from the selected item when the state was saved, in cells
     protected SelectorStyle selectorStyle;
     protected int selectorRectHorizontalInset; // we always draw a rectangle for the selector, we just set the left and right coordinates for it according to style
     protected float selectedTextSize;
@@ -122,6 +193,7 @@ public class ScrollPicker extends LinearLayout {
     protected boolean hasSelectedTextSizeBeenSetByUser = false;
     private boolean isTextBold;
     private float selectorLineWidth;
+    protected WheelEffect wheelEffect = WheelEffect.NONE;
 
     protected NestedScrollView scrollView; // the parent view in which we have the elements in a vertical LinearLayout. Good for scrolling.
     protected LinearLayout itemsLayout;
@@ -130,6 +202,20 @@ public class ScrollPicker extends LinearLayout {
     protected List<AppCompatTextView> textViews;
     protected AppCompatTextView previouslySelectedTextView;
     private boolean isInited = false;
+    protected Integer minSelectableValue, maxSelectableValue; // the selectable range set by the user, null if there is none
+    protected int minSelectableIndex, maxSelectableIndex; // items outside of this index range are displayed disabled and can't be selected
+    protected int imageWindowFirstPosition = 0; // the rows in this position range hold (or are loading) their images in case of ImageItems
+    protected int imageWindowLastPosition = -1;
+    protected ItemFilter itemFilter; // either this or the filterQuery is set if we display only some of the items
+    protected String filterQuery; // lower case
+    protected int[] filteredIndices; // position -> index mapping of the items matching the filter, ascending. null if there is no filter
+    protected int filteredCount;
+    protected String[] searchTexts; // the items' lower case texts for the filter query, made the first time one is set for the items
+    protected int[] sectionStartIndices; // the index of each section's first item, ascending. null if the items aren't sectioned
+    protected String[] sectionTitles;
+    protected int selectedSectionIndex = -1; // the section that the indicator currently shows
+    protected Paint sectionIndicatorPaint;
+    protected float sectionIndicatorPadding;
 
     // region public interface
 
@@ -162,18 +248,22 @@ public class ScrollPicker extends LinearLayout {
     /**
      * Sets the selected item. Can be data-bound (2-way).
      * Throws {@link WrongValueException} if an invalid value is being set.
+     * If the item isn't selectable or is filtered out, the nearest one that is gets selected and the value change listeners are notified with its value.
      *
      * @param value If the list we set was such that its items are Integers, then the value corresponds to the item's int value,
      *              otherwise it is the index of the selected item in the list.
      */
     public void setValue( int value ) {
         if(isInited) {
+            stopScrollEventStepping(); // the user's spin ends where it was headed, the new value comes after that
             if( value != getValueForIndex(selectedItemIndex) ) {
                 isExternalValueChange = true; // external setValue, no need to trigger value changed callback
                 selectItemFromValue( value );
-                if( isInitReady() ) {
-                    scrollYTo( selectedItemIndex * cellHeight );
-                    invalidate();
+                if( isInitReady() && getPositionOf( selectedItemIndex ) >= 0 ) {
+                    if( isAttached && isShown() )
+                        scrollYTo( getPositionOf( selectedItemIndex ) * cellHeight ); // the scrolling redraws the list, the rows' styles redraw themselves
+                    else
+                        scrollYToImmediately( getPositionOf( selectedItemIndex ) * cellHeight ); // no one would see the animation
                 }
                 isExternalValueChange = false;
             }
@@ -234,8 +324,13 @@ public class ScrollPicker extends LinearLayout {
      * @param selectorColor Resolved color.
      */
     public void setSelectorColor( int selectorColor ) {
-        selectorPaint.setColor( selectorColor );
-        invalidate();
+        if( selectorPaint.getColor() != selectorColor ) {
+            selectorPaint.setColor( selectorColor );
+            sectionIndicatorPaint.setColor( selectorColor );
+            invalidateSelector();
+            if( selectedSectionIndex >= 0 )
+                invalidateSectionIndicator();
+        }
     }
 
     /**
@@ -283,21 +378,62 @@ public class ScrollPicker extends LinearLayout {
      *              corresponds to the item's int value, otherwise it is the index of the selected item in the list.
      */
     public void setItems( Collection items ) {
-        ArrayList arrayList = new ArrayList( items );
+        sectionStartIndices = null;
+        sectionTitles = null;
+        setItemList( new ArrayList( items ) );
+    }
+
+    /**
+     * Sets the items section after section, and displays the title of the selected item's section at the top of the view.
+     * The items are handled like with {@link #setItems(Collection)}, the value is the index in the whole list (or the int item).
+     *
+     * @param sections The items of all the sections together must be non-empty.
+     */
+    public void setSectionedItems( List< ItemSection > sections ) {
+        ArrayList arrayList = new ArrayList();
+        int[] startIndices = new int[ sections.size() ];
+        String[] titles = new String[ sections.size() ];
+        for( int i = 0; i < sections.size(); ++i ) {
+            ItemSection section = sections.get( i );
+            startIndices[ i ] = arrayList.size();
+            titles[ i ] = section.getTitle();
+            arrayList.addAll( section.getItems() );
+        }
+        sectionStartIndices = startIndices;
+        sectionTitles = titles;
+        setItemList( arrayList );
+    }
+
+    protected void setItemList( ArrayList arrayList ) {
+        releaseImages(); // while we still have the old positions
+        selectedSectionIndex = -1;
         setItemType( arrayList );
         this.items = arrayList;
         areItemsSet = true;
+        updateSelectableIndexRange();
+        searchTexts = null;
+        if( isFiltered() )
+            applyFilter( false, false ); // the rows get built with the right visibility
         initScrollView();
-        setValueIfInited();
+        if( !isInited )
+            setValueIfInited(); // otherwise the rebuilding of the rows has already applied it, a second time it would select the default
     }
 
     protected void setValueIfInited() {
         isExternalValueChange = true;
         if( storedValue != null ) {  // if we had a value set before, we can set it now that the list was inited
-            setValue( storedValue );
-            storedValue = null;
-        } else
-            selectNewItem( SELECTED_INDEX_DEFAULT );
+            int index = getIndexOfValue( storedValue );
+            int clampedIndex = clampToSelectableRange( index );
+            selectNewItem( clampedIndex ); // even if it's the selected index already, the selection has to be applied to the new items
+            if( isInited ) { // until the rows are built it has to be applied again, e.g. before the first layout or while lazy
+                storedValue = null;
+                if( clampedIndex != index )
+                    notifyOnValueChanged( clampedIndex );
+            }
+        } else if( restoredItemIndex != null && restoredItemIndex < items.size() )
+            selectNewItem( clampToSelectableRange( restoredItemIndex ) );
+        else
+            selectNewItem( clampToSelectableRange( SELECTED_INDEX_DEFAULT ) );
         isExternalValueChange = false;
     }
 
@@ -345,11 +481,26 @@ public class ScrollPicker extends LinearLayout {
     }
 
     /**
-     * Adds a listener for the value change event, which happens when a different item gets selected with touch.
-     * This callback does not happen when the setValue is called programmatically.
+     * Adds a listener for the value change event, which happens when a different item gets selected with touch, or when the picker moves the selection
+     * by itself, e.g. because the selected item got out of the selectable range or got filtered out, or setValue was called with an item that can't be selected.
+     * This callback does not happen when setValue selects the item it was called with.
+     * Adding a listener that has already been added does nothing.
      */
     public void addOnValueChangedListener( OnValueChangeListener onValueChangeListener ) {
-        onValueChangeListeners.add( onValueChangeListener );
+        if( onValueChangeListener == null || indexOfOnValueChangedListener( onValueChangeListener ) >= 0 )
+            return;
+        int count = onValueChangeListeners.length;
+        OnValueChangeListener[] listeners = new OnValueChangeListener[ count + 1 ];
+        System.arraycopy( onValueChangeListeners, 0, listeners, 0, count );
+        listeners[ count ] = onValueChangeListener;
+        onValueChangeListeners = listeners;
+    }
+
+    /**
+     * Returns how many value change listeners are registered. Useful for catching listener leaks.
+     */
+    public int getOnValueChangedListenerCount() {
+        return onValueChangeListeners.length;
     }
 
     /**
@@ -375,8 +526,9 @@ public class ScrollPicker extends LinearLayout {
 //                case CLASSIC_SHORT: // same as classic but with only the middle third of width?
 //                    break;
             }
+            invalidateSelector(); // where it was
             setSelectorRect();
-            invalidate();
+            invalidateSelector();
         }
     }
 
@@ -385,35 +537,199 @@ public class ScrollPicker extends LinearLayout {
      * @param selectorLineWidth The width. Default is 4. If 0, no selector will be drawn.
      */
     public void setSelectorLineWidth( float selectorLineWidth ) {
-        this.selectorLineWidth = selectorLineWidth;
-        selectorPaint.setStrokeWidth( selectorLineWidth );
-        invalidate();
+        if( this.selectorLineWidth != selectorLineWidth ) {
+            invalidateSelector(); // with the old width
+            this.selectorLineWidth = selectorLineWidth;
+            selectorPaint.setStrokeWidth( selectorLineWidth );
+            invalidateSelector();
+        }
     }
 
     /**
-     * Selects the next item if the currently selected isn't the last one.
+     * Restricts which items can be selected without changing the items themselves. The items outside of the range are displayed
+     * with the disabled text color, the scrolling snaps back from them and {@link #setValue(int)} clamps to the range.
+     * If the currently selected item falls outside, the nearest selectable one gets selected and the value change listeners are notified.
+     *
+     * @param minValue The value of the first selectable item (see {@link #setValue(int)} for what the value is).
+     * @param maxValue The value of the last selectable item. Its item can't come before the one of minValue.
+     */
+    public void setSelectableRange( int minValue, int maxValue ) {
+        if( areItemsSet && !isValidSelectableRange( minValue, maxValue ) )
+            throw new WrongValueException( String.format( "Tried to set invalid selectable range %s - %s.", minValue, maxValue ) );
+        minSelectableValue = minValue;
+        maxSelectableValue = maxValue;
+        if( areItemsSet )
+            onSelectableRangeChanged();
+    }
+
+    /**
+     * Makes every item selectable again after {@link #setSelectableRange(int, int)}.
+     */
+    public void clearSelectableRange() {
+        minSelectableValue = null;
+        maxSelectableValue = null;
+        if( areItemsSet )
+            onSelectableRangeChanged();
+    }
+
+    /**
+     * Selects the next item if the currently selected isn't the last (selectable) one.
      */
     public void selectNextItem() {
-        if( selectedItemIndex < items.size() - 1 ) {
+        int position = getPositionOf( selectedItemIndex );
+        if( position >= 0 && position < getMaxSelectablePosition() ) {
             scrollYBy( cellHeight );
         }
     }
 
     /**
-     * Selects the previous item if the currently selected isn't the first one.
+     * Selects the previous item if the currently selected isn't the first (selectable) one.
      */
     public void selectPreviousItem() {
-        if( selectedItemIndex > 0 ) {
+        int position = getPositionOf( selectedItemIndex );
+        if( position > getMinSelectablePosition() ) {
             scrollYBy( -cellHeight );
         }
     }
 
+    /**
+     * Returns how many sections were set with {@link #setSectionedItems(List)}, 0 if the items aren't sectioned.
+     */
+    public int getSectionCount() {
+        return sectionStartIndices == null ? 0 : sectionStartIndices.length;
+    }
+
+    /**
+     * Returns the title of the section that was set with {@link #setSectionedItems(List)}.
+     * Throws {@link WrongValueException} if there is no section with the index.
+     */
+    public String getSectionTitle( int sectionIndex ) {
+        validateSectionIndex( sectionIndex );
+        return sectionTitles[ sectionIndex ];
+    }
+
+    /**
+     * Returns the index of the section that the selected item is in, -1 if the items aren't sectioned.
+     */
+    public int getSelectedSectionIndex() {
+        return getSectionIndexOf( selectedItemIndex );
+    }
+
+    /**
+     * Scrolls to the first item of the section, and notifies the value change listeners.
+     * If that item can't be selected (because of the selectable range or the filter), the closest one that can gets selected.
+     */
+    public void jumpToSection( int sectionIndex ) {
+        validateSectionIndex( sectionIndex );
+        int index = sectionStartIndices[ sectionIndex ];
+        if( filteredIndices != null && filteredCount > 0 ) { // rather the first matching item of the section than the last one of the previous section
+            int position = getLowerBoundPosition( index );
+            if( position < filteredCount )
+                index = filteredIndices[ position ];
+        }
+        index = clampToSelectableRange( Math.min( index, items.size() - 1 ) ); // empty sections at the end start after the last item
+        int position = getPositionOf( index );
+        int selectedPosition = getPositionOf( selectedItemIndex );
+        if( isInited && position >= 0 && selectedPosition >= 0 )
+            scrollYBy( ( position - selectedPosition ) * cellHeight );
+        else
+            selectItem( index );
+    }
+
+    /**
+     * Displays only the items that the filter accepts, without copying or rebuilding the items.
+     * The value remains the same as without the filter (e.g. the index in the whole list).
+     * If the selected item gets filtered out, the nearest matching one gets selected and the value change listeners are notified.
+     */
+    public void setFilter( ItemFilter itemFilter ) {
+        this.itemFilter = itemFilter;
+        this.filterQuery = null;
+        onFilterChanged( false );
+    }
+
+    /**
+     * Displays only the items whose displayed text contains the query, case-insensitively.
+     * When the query only gets longer (as while typing) just the currently matching items are checked again.
+     * See {@link #setFilter(ItemFilter)} for how the selection and the value behave.
+     *
+     * @param query If null or empty, every item is displayed.
+     */
+    public void setFilterQuery( CharSequence query ) {
+        if( query == null || query.length() == 0 ) {
+            clearFilter();
+            return;
+        }
+        String newQuery = query.toString().toLowerCase( Locale.getDefault() );
+        boolean isNarrowing = filterQuery != null && newQuery.startsWith( filterQuery ) && filteredIndices != null;
+        if( newQuery.equals( filterQuery ) )
+            return;
+        this.itemFilter = null;
+        this.filterQuery = newQuery;
+        onFilterChanged( isNarrowing );
+    }
+
+    /**
+     * Displays every item again after {@link #setFilter(ItemFilter)} or {@link #setFilterQuery(CharSequence)}.
+     */
+    public void clearFilter() {
+        if( !isFiltered() )
+            return;
+        itemFilter = null;
+        filterQuery = null;
+        onFilterChanged( false );
+    }
+
+    /**
+     * Returns how many items are displayed, i.e. match the filter if there is one.
+     */
+    public int getMatchingItemCount() {
+        return areItemsSet ? getPositionCount() : 0;
+    }
+
     /**
      * Removes a listener for the value change event, which happens when a different item gets selected with touch.
      * Wouldn't be a problem if you tried to remove one which you haven't actually added previously.
      */
     public void removeOnValueChangedListener( OnValueChangeListener onValueChangeListener ) {
-        onValueChangeListeners.remove( onValueChangeListener );
+        int index = indexOfOnValueChangedListener( onValueChangeListener );
+        if( index < 0 )
+            return;
+        int count = onValueChangeListeners.length;
+        if( count == 1 ) {
+            onValueChangeListeners = NO_LISTENERS;
+            return;
+        }
+        OnValueChangeListener[] listeners = new OnValueChangeListener[ count - 1 ];
+        System.arraycopy( onValueChangeListeners, 0, listeners, 0, index );
+        System.arraycopy( onValueChangeListeners, index + 1, listeners, index, count - index - 1 );
+        onValueChangeListeners = listeners;
+    }
+
+    /**
+     * Sets how the rows are transformed depending on their distance from the selector, e.g. to look like a 3D wheel.
+     * The transformations don't change the rows' text layouts so they don't cause any measuring or layout while scrolling.
+     */
+    public void setWheelEffect( WheelEffect wheelEffect ) {
+        if( this.wheelEffect != wheelEffect ) {
+            this.wheelEffect = wheelEffect;
+            if( wheelEffect == WheelEffect.NONE )
+                resetWheelTransforms();
+            else
+                updateWheelTransforms();
+        }
+    }
+
+    /**
+     * Sets if the rows should be built only when the view first becomes visible on the screen, instead of at the first layout.
+     * Screens with many pickers (e.g. in a long form) can get to their first frame faster this way.
+     * It only has an effect until the rows are first built.
+     */
+    public void setLazy( boolean isLazy ) {
+        this.isLazy = isLazy;
+        if( !isLazy && isWaitingForVisibility ) {
+            stopWaitingForVisibility();
+            initScrollView();
+        }
     }
 
     // endregion public interface
@@ -432,7 +748,7 @@ public class ScrollPicker extends LinearLayout {
             if( selectNextItemRect.contains( (int)x, (int)y ) ) {
                 selectNextItem();
             }
-            invalidate();
+            // no need to invalidate: the scrolling redraws the list and only the rows whose style changed redraw themselves
         }
         return false;
     }
@@ -451,10 +767,21 @@ public class ScrollPicker extends LinearLayout {
             return true;
         switch( event.getAction() ) {
             case MotionEvent.ACTION_DOWN:
+                stopScrollEventStepping();
                 mStartY = event.getY();
+                scheduleAutoRepeat( event );
                 break;
             case MotionEvent.ACTION_CANCEL:
             case MotionEvent.ACTION_UP:
+                if( isAutoRepeating ) { // the long press is over, no tap handling for it
+                    stopAutoRepeat( true );
+                    MotionEvent cancelEvent = MotionEvent.obtain( event );
+                    cancelEvent.setAction( MotionEvent.ACTION_CANCEL ); // the scroll view still has to end its nested scroll and forget the pointer
+                    super.dispatchTouchEvent( cancelEvent );
+                    cancelEvent.recycle();
+                    return true;
+                }
+                removeCallbacks( autoRepeatStarter );
                 float y = event.getY();
                 float yDeltaTotal = y - mStartY;
                 if( Math.abs( yDeltaTotal ) < TOUCH_SLOP ) { // we aren't scrolling
@@ -465,25 +792,215 @@ public class ScrollPicker extends LinearLayout {
                 }
                 break;
             case MotionEvent.ACTION_MOVE:
+                if( Math.abs( event.getY() - mStartY ) >= TOUCH_SLOP ) // it's a drag, the scroll view takes over
+                    stopAutoRepeat( false );
                 break;
         }
         return super.dispatchTouchEvent( event );
     }
 
+    // we handle the scroll events before the scroll view would, so they go through the same stepping and snapping as everything else
+    @Override
+    public boolean dispatchGenericMotionEvent( MotionEvent event ) {
+        if( onScrollEvent( event ) )
+            return true;
+        return super.dispatchGenericMotionEvent( event );
+    }
+
+    protected boolean onScrollEvent( MotionEvent event ) {
+        if( Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB_MR1 || event.getAction() != MotionEvent.ACTION_SCROLL )
+            return false;
+        boolean isPointer = ( event.getSource() & InputDevice.SOURCE_CLASS_POINTER ) != 0;
+        if( !isPointer && ( event.getSource() & InputDeviceCompat.SOURCE_ROTARY_ENCODER ) == 0 )
+            return false;
+        if( !isEnabled )
+            return true; // the scroll view would scroll the list without ever snapping or selecting
+        if( !isInited )
+            return false;
+        float steps;
+        if( isPointer ) // a wheel notch is one step. inverted, as scrolling up means going to the previous items
+            steps = -getScrollAxisValue( event, MotionEvent.AXIS_VSCROLL );
+        else
+            steps = -getScrollAxisValue( event, MotionEventCompat.AXIS_SCROLL )
+                    * ViewConfigurationCompat.getScaledVerticalScrollFactor( ViewConfiguration.get( context ), context ) / cellHeight;
+        pendingScrollSteps += steps;
+        lastScrollEventTime = AnimationUtils.currentAnimationTimeMillis();
+        int wholeSteps = (int)pendingScrollSteps; // the fraction waits for more scrolling
+        if( wholeSteps != 0 && getPositionCount() > 0 ) {
+            pendingScrollSteps -= wholeSteps;
+            if( !isScrollEventStepping )
+                startScrollEventStepping();
+            scrollEventTargetPosition = clampToSelectablePositions( scrollEventTargetPosition + wholeSteps );
+            removeCallbacks( scrollEventFrameTask ); // it may be waiting for the idle timeout
+            ViewCompat.postOnAnimation( this, scrollEventFrameTask );
+        }
+        return true;
+    }
+
+    // the events can be batched, the historical samples hold the scrolling that happened since the previous event
+    protected float getScrollAxisValue( MotionEvent event, int axis ) {
+        float value = event.getAxisValue( axis );
+        for( int i = 0; i < event.getHistorySize(); ++i )
+            value += event.getHistoricalAxisValue( axis, i );
+        return value;
+    }
+
+    protected void startScrollEventStepping() {
+        if( scrollYAnimator != null )
+            scrollYAnimator.cancel();
+        if( isScrollStopCheckPending ) { // the wheel takes over from a fling
+            removeCallbacks( scrollerTask );
+            isScrollStopCheckPending = false;
+            scrollView.fling( 0 );
+        }
+        isScrollEventStepping = true;
+        scrollEventStartIndex = selectedItemIndex;
+        scrollEventScrollY = scrollView.getScrollY();
+        scrollEventLastFrameTime = AnimationUtils.currentAnimationTimeMillis();
+        scrollEventTargetPosition = clampToSelectablePositions( Math.round( scrollEventScrollY / cellHeight ) );
+    }
+
+    // however fast the wheel spins, there is one continuous scroll driven by the frames instead of an animator for every step,
+    // and it only snaps and notifies the listeners once the wheel has been idle for a while
+    protected void onScrollEventFrame() {
+        if( !isScrollEventStepping )
+            return;
+        long now = AnimationUtils.currentAnimationTimeMillis();
+        float targetScrollY = scrollEventTargetPosition * cellHeight;
+        float distance = targetScrollY - scrollEventScrollY;
+        if( Math.abs( distance ) < 1 )
+            scrollEventScrollY = targetScrollY;
+        else // covers the remaining distance in about the time of a snapping scroll
+            scrollEventScrollY += distance * Math.min( 1, (float)( now - scrollEventLastFrameTime ) / SCROLL_INTO_PLACE_DURATION_MS_DEFAULT );
+        scrollEventLastFrameTime = now;
+        scrollView.scrollTo( 0, Math.round( scrollEventScrollY ) );
+        selectItem( getItemIndexAt( clampToSelectablePositions( Math.round( scrollEventScrollY / cellHeight ) ) ) ); // the listeners are held back until the end
+
+        if( scrollEventScrollY != targetScrollY )
+            ViewCompat.postOnAnimation( this, scrollEventFrameTask );
+        else if( now - lastScrollEventTime < SCROLL_EVENT_IDLE_TIMEOUT_MS )
+            ViewCompat.postOnAnimationDelayed( this, scrollEventFrameTask, SCROLL_EVENT_IDLE_TIMEOUT_MS - ( now - lastScrollEventTime ) );
+        else
+            stopScrollEventStepping();
+    }
+
+    // jumps to where the steps so far take us
+    protected void stopScrollEventStepping() {
+        if( !isScrollEventStepping )
+            return;
+        removeCallbacks( scrollEventFrameTask );
+        pendingScrollSteps = 0;
+        if( getPositionCount() > 0 ) {
+            int position = clampToSelectablePositions( scrollEventTargetPosition );
+            scrollYTo.set( position * cellHeight );
+            scrollView.scrollTo( 0, scrollYTo.get() );
+            selectItem( getItemIndexAt( position ) );
+        }
+        isScrollEventStepping = false;
+        if( selectedItemIndex != scrollEventStartIndex ) // one notification for the whole spin
+            notifyOnValueChanged( selectedItemIndex );
+    }
+
+    // a long press above or below the selector keeps stepping in that direction, faster and faster
+    protected void scheduleAutoRepeat( MotionEvent event ) {
+        if( !IS_SET_NEXT_OR_PREVIOUS_ITEM_ENABLED || selectPreviousItemRect == null || !isInited )
+            return;
+        if( selectPreviousItemRect.contains( (int)event.getX(), (int)event.getY() ) )
+            autoRepeatDirection = -1;
+        else if( selectNextItemRect.contains( (int)event.getX(), (int)event.getY() ) )
+            autoRepeatDirection = 1;
+        else
+            return;
+        postDelayed( autoRepeatStarter, LONG_PRESS_TIMEOUT_MS );
+    }
+
+    protected void startAutoRepeat() {
+        if( getPositionCount() == 0 )
+            return;
+        if( scrollYAnimator != null )
+            scrollYAnimator.cancel();
+        isAutoRepeating = true;
+        autoRepeatStartIndex = selectedItemIndex;
+        autoRepeatStartTime = AnimationUtils.currentAnimationTimeMillis();
+        autoRepeatLastFrameTime = autoRepeatStartTime;
+        autoRepeatScrollY = scrollView.getScrollY();
+        ViewCompat.postOnAnimation( this, autoRepeatFrameTask );
+    }
+
+    // one continuous scroll driven by the frames instead of an animator for every step
+    protected void onAutoRepeatFrame() {
+        if( !isAutoRepeating )
+            return;
+        long now = AnimationUtils.currentAnimationTimeMillis();
+        float speed = Math.min( AUTO_REPEAT_MAX_SPEED, AUTO_REPEAT_START_SPEED + AUTO_REPEAT_ACCELERATION * ( now - autoRepeatStartTime ) / 1000f );
+        autoRepeatScrollY += autoRepeatDirection * speed * cellHeight * ( now - autoRepeatLastFrameTime ) / 1000f;
+        autoRepeatLastFrameTime = now;
+
+        int minScrollY = clampToSelectablePositions( 0 ) * cellHeight;
+        int maxScrollY = clampToSelectablePositions( getPositionCount() - 1 ) * cellHeight;
+        autoRepeatScrollY = Math.max( minScrollY, Math.min( maxScrollY, autoRepeatScrollY ) );
+        scrollView.scrollTo( 0, Math.round( autoRepeatScrollY ) );
+        selectItem( getItemIndexAt( clampToSelectablePositions( Math.round( autoRepeatScrollY / cellHeight ) ) ) ); // the listeners are held back until the end
+
+        boolean hasReachedEnd = autoRepeatScrollY == ( autoRepeatDirection < 0 ? minScrollY : maxScrollY );
+        if( !hasReachedEnd )
+            ViewCompat.postOnAnimation( this, autoRepeatFrameTask );
+    }
+
+    protected void stopAutoRepeat( boolean isSnapping ) {
+        removeCallbacks( autoRepeatStarter );
+        if( !isAutoRepeating )
+            return;
+        removeCallbacks( autoRepeatFrameTask );
+        if( isSnapping ) {
+            scrollYTo.set( scrollView.getScrollY() );
+            selectNearestItemOnScrollStop();
+        }
+        isAutoRepeating = false;
+        if( selectedItemIndex != autoRepeatStartIndex ) // one notification for the whole long press
+            notifyOnValueChanged( selectedItemIndex );
+    }
+
     @Override
     protected void dispatchDraw( Canvas canvas ) {
         // whatever is before the super call will be drawn to the background, so now the selector is drawn behind the list, so the selected item's text is visible too
         drawSelector( canvas );
         super.dispatchDraw( canvas );
+        drawSectionIndicator( canvas ); // over the list, the rows shouldn't cover it
     }
 
     private void updateTextViewsStyle() {
+        if( isInited ) // the setters are called from initValues too, before there are any items
+            updateTextViewsStyle( 0, items.size() - 1 );
+    }
+
+    // the text views invalidate themselves when their color or size actually changes
+    private void updateTextViewsStyle( int fromIndex, int toIndex ) {
         if( isInited )
-            for( int i = 0; i < items.size(); ++i ) {
-                AppCompatTextView textView = textViews.get( i );
-                setTextViewStyle( i, textView );
-                textView.invalidate();
-            }
+            for( int i = Math.max( 0, fromIndex ); i <= toIndex && i < textViews.size(); ++i )
+                setTextViewStyle( i, textViews.get( i ) );
+    }
+
+    // only the selector's area needs to be redrawn when its looks change
+    protected void invalidateSelector() {
+        if( selectorRect == null )
+            return;
+        int strokeOutset = (int)Math.ceil( selectorLineWidth / 2 ) + 1;
+        invalidate( selectorRect.left - strokeOutset,
+                selectorRect.top - strokeOutset,
+                selectorRect.right + strokeOutset,
+                selectorRect.bottom + strokeOutset );
+    }
+
+    protected void drawSectionIndicator( Canvas canvas ) {
+        if( selectedSectionIndex < 0 || sectionTitles[ selectedSectionIndex ] == null )
+            return;
+        canvas.drawText( sectionTitles[ selectedSectionIndex ], sectionIndicatorPadding, sectionIndicatorPadding - sectionIndicatorPaint.ascent(), sectionIndicatorPaint );
+    }
+
+    // only the indicator's strip at the top needs to be redrawn when the section changes
+    protected void invalidateSectionIndicator() {
+        invalidate( 0, 0, getWidth(), (int)Math.ceil( 2 * sectionIndicatorPadding - sectionIndicatorPaint.ascent() + sectionIndicatorPaint.descent() ) );
     }
 
     private void drawSelector( Canvas canvas ) {
@@ -496,20 +1013,23 @@ public class ScrollPicker extends LinearLayout {
                 canvas.drawRect( selectorRect, selectorPaint );
     }
 
-    protected void selectItemFromValue( int index ) {
-        switch( listItemType ) {
-            case INT:
-                selectItem( getIndexOfValue( index ) );
-                break;
-            case OTHER:
-                selectItem( index );
-                break;
-        }
+    protected void selectItemFromValue( int value ) {
+        int index = getIndexOfValue( value );
+        int clampedIndex = clampToSelectableRange( index );
+        selectItem( clampedIndex );
+        if( clampedIndex != index ) // the value wasn't selectable (or got filtered out), the one who set it has to know what we display instead
+            notifyOnValueChanged( clampedIndex );
     }
 
     protected void setItemType(ArrayList items ) {
-        if( items.get( 0 ) instanceof Integer )
+        intRangeStart = null;
+        if( items.get( 0 ) instanceof Integer ) {
             this.listItemType = ListItemType.INT;
+            if( isIntRange( items ) )
+                intRangeStart = (Integer)items.get( 0 );
+        }
+        else if( items.get( 0 ) instanceof ImageItem )
+            this.listItemType = ListItemType.IMAGE;
         else
             this.listItemType = ListItemType.OTHER;
     }
@@ -519,17 +1039,171 @@ public class ScrollPicker extends LinearLayout {
         return scrollView.getScrollY();
     }
 
+    protected boolean isIntRange( ArrayList items ) {
+        int first = (Integer)items.get( 0 );
+        for( int i = 1; i < items.size(); ++i )
+            if( !( items.get( i ) instanceof Integer ) || (Integer)items.get( i ) != first + i )
+                return false;
+        return true;
+    }
+
     protected int getIndexOfValue( int value ) {
-        ArrayList< Integer > intItems = getIntItems();
-        if( intItems.contains( value ) )
-            return intItems.indexOf( value );
+        int index = findIndexOfValue( value );
+        if( index >= 0 )
+            return index;
         throw new WrongValueException( String.format( "Tried to set value %s which wasn't in the items.", value ) );
     }
 
+    // -1 if there is no item with the value
+    protected int findIndexOfValue( int value ) {
+        if( listItemType != ListItemType.INT )
+            return value >= 0 && value < items.size() ? value : -1;
+        if( intRangeStart != null ) {
+            int index = value - intRangeStart;
+            return index >= 0 && index < items.size() ? index : -1;
+        }
+        return getIntItems().indexOf( value );
+    }
+
+    // converts the selectable value range to indices, falls back to every item being selectable if the values aren't in the items
+    protected void updateSelectableIndexRange() {
+        minSelectableIndex = 0;
+        maxSelectableIndex = items.size() - 1;
+        if( minSelectableValue != null && isValidSelectableRange( minSelectableValue, maxSelectableValue ) ) {
+            minSelectableIndex = findIndexOfValue( minSelectableValue );
+            maxSelectableIndex = findIndexOfValue( maxSelectableValue );
+        }
+    }
+
+    protected boolean isValidSelectableRange( int minValue, int maxValue ) {
+        int minIndex = findIndexOfValue( minValue );
+        return minIndex >= 0 && findIndexOfValue( maxValue ) >= minIndex;
+    }
+
+    protected void onSelectableRangeChanged() {
+        int oldMinIndex = minSelectableIndex;
+        int oldMaxIndex = maxSelectableIndex;
+        updateSelectableIndexRange();
+
+        // only the rows that got in or out of the range need a new style
+        updateTextViewsStyle( Math.min( oldMinIndex, minSelectableIndex ), Math.max( oldMinIndex, minSelectableIndex ) );
+        updateTextViewsStyle( Math.min( oldMaxIndex, maxSelectableIndex ), Math.max( oldMaxIndex, maxSelectableIndex ) );
+
+        int clampedIndex = clampToSelectableRange( selectedItemIndex );
+        if( clampedIndex != selectedItemIndex ) {
+            int position = getPositionOf( selectedItemIndex );
+            if( isInited && position >= 0 )
+                scrollYBy( ( getPositionOf( clampedIndex ) - position ) * cellHeight );
+            else
+                selectItem( clampedIndex );
+        }
+    }
+
+    // the nearest item to the index that is selectable and matches the filter (if there are such items)
+    protected int clampToSelectableRange( int index ) {
+        int clampedIndex = Math.max( minSelectableIndex, Math.min( maxSelectableIndex, index ) );
+        if( filteredIndices == null || filteredCount == 0 )
+            return clampedIndex;
+        return getItemIndexAt( clampToSelectablePositions( getNearestPositionOf( clampedIndex ) ) );
+    }
+
+    protected int clampToSelectablePositions( int position ) {
+        int minPosition = getMinSelectablePosition();
+        int maxPosition = getMaxSelectablePosition();
+        if( minPosition > maxPosition ) // none of the selectable items match the filter
+            return Math.max( 0, Math.min( getPositionCount() - 1, position ) );
+        return Math.max( minPosition, Math.min( maxPosition, position ) );
+    }
+
+    protected int getMinSelectablePosition() {
+        return filteredIndices == null ? minSelectableIndex : getLowerBoundPosition( minSelectableIndex );
+    }
+
+    protected int getMaxSelectablePosition() {
+        return filteredIndices == null ? maxSelectableIndex : getLowerBoundPosition( maxSelectableIndex + 1 ) - 1;
+    }
+
+    protected boolean isSelectable( int index ) {
+        return index >= minSelectableIndex && index <= maxSelectableIndex;
+    }
+
     protected void restartScrollStopCheck() {
+        isScrollStopCheckPending = true;
+        if( !isAttached || !isShown() ) {
+            finishScrollingImmediately();
+            return;
+        }
         postDelayed( scrollerTask, SCROLL_STOP_CHECK_INTERVAL_MS );
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        isAttached = true;
+        if( isWaitingForVisibility )
+            getViewTreeObserver().addOnPreDrawListener( firstVisibilityListener );
+        loadVisibleImages();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        if( isWaitingForVisibility )
+            getViewTreeObserver().removeOnPreDrawListener( firstVisibilityListener );
+        isAttached = false;
+        finishScrollingImmediately();
+        releaseImageWindow(); // the rows stay, but they may be outside of the window by the time we are attached again
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onVisibilityChanged( @NonNull View changedView, int visibility ) {
+        super.onVisibilityChanged( changedView, visibility );
+        if( !isShown() )
+            finishScrollingImmediately();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged( int visibility ) {
+        super.onWindowVisibilityChanged( visibility );
+        if( visibility != VISIBLE )
+            finishScrollingImmediately();
+    }
+
+    protected void waitForVisibility() {
+        if( !isWaitingForVisibility ) {
+            isWaitingForVisibility = true;
+            if( isAttached )
+                getViewTreeObserver().addOnPreDrawListener( firstVisibilityListener );
+        }
+    }
+
+    protected void stopWaitingForVisibility() {
+        if( isWaitingForVisibility ) {
+            isWaitingForVisibility = false;
+            if( isAttached )
+                getViewTreeObserver().removeOnPreDrawListener( firstVisibilityListener );
+        }
+    }
+
+    // while we can't be seen there is no point in polling for the scroll stop or animating, we jump to where the scrolling would end
+    protected void finishScrollingImmediately() {
+        stopAutoRepeat( true );
+        stopScrollEventStepping();
+        if( isScrollStopCheckPending ) {
+            removeCallbacks( scrollerTask );
+            isScrollStopCheckPending = false;
+            scrollView.fling( 0 );
+            if( getPositionCount() > 0 ) {
+                int position = clampToSelectablePositions( Math.round( (float)scrollView.getScrollY() / cellHeight ) );
+                scrollYTo.set( position * cellHeight );
+                scrollView.scrollTo( 0, scrollYTo.get() );
+                selectItem( getItemIndexAt( position ) );
+            }
+        }
+        if( scrollYAnimator != null && scrollYAnimator.isRunning() )
+            scrollYAnimator.end();
+    }
+
     protected void initValues( AttributeSet attrs ) {
         TEXT_COLOR_DISABLED = ContextCompat.getColor( context, R.color.textColorDisabled );
         TEXT_COLOR_DEFAULT = ContextCompat.getColor( context, R.color.textColorDefault );
@@ -538,12 +1212,16 @@ public class ScrollPicker extends LinearLayout {
 
         isEnabled = true;
         selectorPaint = new Paint();
+        sectionIndicatorPaint = new Paint( Paint.ANTI_ALIAS_FLAG );
+        sectionIndicatorPaint.setTextSize( TypedValue.applyDimension( TypedValue.COMPLEX_UNIT_SP, SECTION_INDICATOR_TEXT_SIZE_SP, getResources().getDisplayMetrics() ) );
+        sectionIndicatorPadding = TypedValue.applyDimension( TypedValue.COMPLEX_UNIT_DIP, SECTION_INDICATOR_PADDING_DP, getResources().getDisplayMetrics() );
 
         TypedArray attributesArray = context.obtainStyledAttributes( attrs, R.styleable.ScrollPicker );
 
         setSelectorLineWidth( attributesArray.getFloat( R.styleable.ScrollPicker_selectorLineWidth, SELECTOR_STROKE_WIDTH ) );
         setSelectorColor( attributesArray.getColor( R.styleable.ScrollPicker_selectorColor, SELECTOR_COLOR_DEFAULT ) );
         setSelectorStyle( SelectorStyle.values()[ attributesArray.getInt( R.styleable.ScrollPicker_selectorStyle, SELECTOR_STYLE_DEFAULT_INDEX ) ] );
+        setWheelEffect( WheelEffect.values()[ attributesArray.getInt( R.styleable.ScrollPicker_wheelEffect, WHEEL_EFFECT_DEFAULT_INDEX ) ] );
         setShownItemCount( attributesArray.getInt( R.styleable.ScrollPicker_shownItemCount, SHOWN_ITEM_COUNT_DEFAULT ) );
 
         setTextSize( attributesArray.getFloat( R.styleable.ScrollPicker_textSize, TEXT_SIZE_DEFAULT ) );
@@ -556,17 +1234,27 @@ public class ScrollPicker extends LinearLayout {
         setTextColor( attributesArray.getInt( R.styleable.ScrollPicker_textColor, TEXT_COLOR_DEFAULT ) );
         setEnabled( attributesArray.getBoolean( R.styleable.ScrollPicker_isEnabled, true ) );
         setTextBold( attributesArray.getBoolean( R.styleable.ScrollPicker_isTextBold, false ) );
+        setLazy( attributesArray.getBoolean( R.styleable.ScrollPicker_isLazy, false ) );
 
         attributesArray.recycle();
     }
 
     protected void scrollYTo( int scrollYTo ) {
-        ObjectAnimator scrollYAnimator = ObjectAnimator.ofInt( scrollView, "scrollY", scrollYTo ).
+        if( scrollYAnimator != null )
+            scrollYAnimator.cancel(); // the new one starts from wherever the previous one got to
+        scrollYAnimator = ObjectAnimator.ofInt( scrollView, "scrollY", scrollYTo ).
                 setDuration( SCROLL_INTO_PLACE_DURATION_MS_DEFAULT );
         scrollYAnimator.setInterpolator( new LinearInterpolator() );
         scrollYAnimator.start();
     }
 
+    protected void scrollYToImmediately( int scrollYTo ) {
+        if( scrollYAnimator != null )
+            scrollYAnimator.cancel();
+        scrollView.scrollTo( 0, scrollYTo );
+        this.scrollYTo.set( scrollYTo );
+    }
+
     protected void init() {
         LayoutInflater inflater = (LayoutInflater)context.getSystemService( Context.LAYOUT_INFLATER_SERVICE );
         inflater.inflate( LAYOUT, this, true );
@@ -574,6 +1262,7 @@ public class ScrollPicker extends LinearLayout {
         scrollerTask = new Runnable() {
             @Override
             public void run() {
+                isScrollStopCheckPending = false;
                 int newPosition = scrollView.getScrollY();
                 if( lastScrollY == newPosition ) { // has probably stopped. we can't be sure unfortunately and this is the best you can do with the lacking android api.
                     scrollView.fling( 0 ); // we stop the scrolling to be sure. better than smoothScrollTo( 0, 0 ): it jumps once and back fast while stopping and looks bad
@@ -586,53 +1275,44 @@ public class ScrollPicker extends LinearLayout {
             }
         };
         scrollView = findViewById( R.id.scrollView );
+        scrollView.setOnScrollChangeListener( new NestedScrollView.OnScrollChangeListener() {
+            @Override
+            public void onScrollChange( NestedScrollView v, int scrollX, int scrollY, int oldScrollX, int oldScrollY ) {
+                ScrollPicker.this.onListScrollChanged();
+            }
+        } );
         correctionViewTop = findViewById( R.id.correctionViewTop );
         correctionViewBottom = findViewById( R.id.correctionViewBottom );
+        scrollEventFrameTask = new Runnable() {
+            @Override
+            public void run() {
+                ScrollPicker.this.onScrollEventFrame();
+            }
+        };
+        autoRepeatStarter = new Runnable() {
+            @Override
+            public void run() {
+                ScrollPicker.this.startAutoRepeat();
+            }
+        };
+        autoRepeatFrameTask = new Runnable() {
+            @Override
+            public void run() {
+                ScrollPicker.this.onAutoRepeatFrame();
+            }
+        };
     }
 
     // corrections are necessary at the end of scrolling to set ourself to a valid position
     protected void selectNearestItemOnScrollStop() {
-        int firstVisibleItemIndex = getFirstVisibleItemIndex();
-        Rect firstVisibleRect = getFirstVisibleRect( firstVisibleItemIndex );
-
         // which item should be selected? the item above or below the selection area?
-        // we know by checking how much height of the view of firstVisibleItemIndex is visible
-        int visibleHeightOfItem = ( firstVisibleRect.height() > cellHeight ) ?
-                firstVisibleRect.height() % cellHeight : // % cellHeight: the "space" view's (the one at the start) height is multiple of cellHeight
-                firstVisibleRect.height();
-        int scrollYby = getScrollYby( visibleHeightOfItem ); // how much to scroll the scrollView
+        // every row is cellHeight high, so we know by how far we are from the last cell boundary. rows hidden by a filter don't take up space.
+        int scrollY = scrollView.getScrollY();
+        int distanceFromCellTop = scrollY % cellHeight;
+        int scrollYby = distanceFromCellTop <= cellHeight / 2 ? -distanceFromCellTop : cellHeight - distanceFromCellTop; // how much to scroll the scrollView
         scrollYBy( scrollYby );
     }
 
-    protected int getScrollYby( int visibleHeightOfItem ) {
-        int scrollYby;
-        if( Math.abs( visibleHeightOfItem ) <= cellHeight / 2 ) {
-            scrollYby = visibleHeightOfItem;
-        } else {
-            scrollYby = visibleHeightOfItem - cellHeight;
-        }
-        return scrollYby;
-    }
-
-    @NonNull
-    protected Rect getFirstVisibleRect( int firstVisibleItemIndex ) {
-        View child = itemsLayout.getChildAt( firstVisibleItemIndex );
-        Rect firstVisibleRect = new Rect( 0, 0, child.getWidth(), child.getHeight() );
-        itemsLayout.getChildVisibleRect( child, firstVisibleRect, null );
-        return firstVisibleRect;
-    }
-
-    protected int getFirstVisibleItemIndex() {
-        int cellCount = scrollView.getScrollY() / cellHeight;
-        int spaceHeight = spaceCellCount * cellHeight;
-        int firstVisibleItemIndex;
-        if( scrollView.getScrollY() > spaceHeight )
-            firstVisibleItemIndex = cellCount - ( spaceCellCount - 1 );
-        else
-            firstVisibleItemIndex = 0;
-        return firstVisibleItemIndex;
-    }
-
     protected void initSelectorAndCellHeight() {
         cellHeight = getHeight() / shownItemCount;
         if( cellHeight > 0 ) {
@@ -664,6 +1344,11 @@ public class ScrollPicker extends LinearLayout {
 
     protected void initScrollView() {
         if( isInitReady() ) {
+            if( isLazy && !hasBeenVisible && !isInited ) { // once the rows are built, they get rebuilt right away like in the eager mode
+                waitForVisibility();
+                return;
+            }
+            releaseImages();
             scrollView.removeAllViews();
             int scrollViewHeight = cellHeight * shownItemCount;
             setViewHeight( scrollView, scrollViewHeight );
@@ -683,23 +1368,97 @@ public class ScrollPicker extends LinearLayout {
     }
 
     private void addInitialValueScroll() {
-        itemsLayout.getViewTreeObserver().addOnPreDrawListener( new ViewTreeObserver.OnPreDrawListener() {
+        if( isInitialScrollPending )
+            return;
+        isInitialScrollPending = true;
+        // on the scroll view's observer, as the items layout can be replaced before the next draw
+        scrollView.getViewTreeObserver().addOnPreDrawListener( new ViewTreeObserver.OnPreDrawListener() {
             public boolean onPreDraw() { // sets the position to the selected item without animation
                 scrollView.getViewTreeObserver().removeOnPreDrawListener( this );
-                int scrollYTo = selectedItemIndex * cellHeight;
-                scrollView.scrollTo( 0, scrollYTo );
-                ScrollPicker.this.scrollYTo.set( scrollYTo );
-                return false;
+                isInitialScrollPending = false;
+                scrollToInitialPosition();
+                return true; // the layout is done, so this frame can already be drawn at the right position
             }
         } );
     }
 
+    // to the selected item, or to exactly where we were if we are coming from a restored state
+    protected void scrollToInitialPosition() {
+        int scrollYTo = Math.max( 0, getPositionOf( selectedItemIndex ) ) * cellHeight + Math.round( restoredScrollOffset * cellHeight );
+        scrollView.scrollTo( 0, scrollYTo );
+        this.scrollYTo.set( scrollYTo );
+        if( restoredScrollOffset != 0 ) { // it was saved mid-scroll, it still has to snap into place
+            lastScrollY = scrollYTo;
+            restartScrollStopCheck();
+        }
+        restoredItemIndex = null;
+        restoredScrollOffset = 0;
+        loadVisibleImages();
+        updateWheelTransforms();
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState( super.onSaveInstanceState() );
+        state.selectedItemIndex = selectedItemIndex;
+        if( isInited && cellHeight > 0 )
+            state.scrollOffset = (float)( scrollView.getScrollY() - Math.max( 0, getPositionOf( selectedItemIndex ) ) * cellHeight ) / cellHeight;
+        if( intRangeStart != null ) {
+            state.hasIntRange = true;
+            state.intRangeFrom = intRangeStart;
+            state.intRangeTo = intRangeStart + items.size() - 1;
+        }
+        return state;
+    }
+
+    @Override
+    protected void onRestoreInstanceState( Parcelable state ) {
+        if( !( state instanceof SavedState ) ) {
+            super.onRestoreInstanceState( state );
+            return;
+        }
+        SavedState savedState = (SavedState)state;
+        super.onRestoreInstanceState( savedState.getSuperState() );
+        restoredItemIndex = savedState.selectedItemIndex;
+        restoredScrollOffset = savedState.scrollOffset;
+        storedValue = null; // the restored selection wins over a value set in onCreate that is still waiting for the rows
+        if( !areItemsSet ) {
+            if( savedState.hasIntRange ) // no need to wait for the items to be set again, we know them already
+                setItemsIntRange( savedState.intRangeFrom, savedState.intRangeTo );
+        } else if( restoredItemIndex < items.size() ) {
+            isExternalValueChange = true;
+            selectItem( clampToSelectableRange( restoredItemIndex ) );
+            isExternalValueChange = false;
+            if( isInited && ViewCompat.isLaidOut( itemsLayout ) ) // otherwise the pending initial scroll takes care of the position
+                scrollToInitialPosition();
+        }
+    }
+
+    // the scroll view's own state would restore a scroll position in the next layout, conflicting with ours, and it would also
+    // collide with the other ScrollPickers' in the same hierarchy as they have the same id
+    @Override
+    protected void dispatchSaveInstanceState( SparseArray< Parcelable > container ) {
+        dispatchFreezeSelfOnly( container );
+    }
+
+    @Override
+    protected void dispatchRestoreInstanceState( SparseArray< Parcelable > container ) {
+        dispatchThawSelfOnly( container );
+    }
+
     private void fillItemsLayout() {
         textViews = new ArrayList<>(items.size());
         int spaceHeight = cellHeight * spaceCellCount;
         itemsLayout.addView( getSpace( spaceHeight ) );
+        int position = 0;
         for( int i = 0; i < items.size(); ++i ) {
             AppCompatTextView textView = getTextView(i);
+            if( filteredIndices != null ) { // the filtered indices are ascending, so we can walk them along with the items
+                if( position < filteredCount && filteredIndices[ position ] == i )
+                    ++position;
+                else
+                    textView.setVisibility( GONE );
+            }
             itemsLayout.addView(textView);
             textViews.add(textView);
         }
@@ -711,7 +1470,7 @@ public class ScrollPicker extends LinearLayout {
     }
 
     private void initItemsLayout() {
-        itemsLayout = new LinearLayout( scrollView.getContext() );
+        itemsLayout = new LinearLayout( getContext() ); // not the scroll view's, for a pooled picker that is inflated with the application context
         itemsLayout.setOrientation( LinearLayout.VERTICAL );
     }
 
@@ -765,7 +1524,7 @@ public class ScrollPicker extends LinearLayout {
             textView.setTextColor( textColorForSelectedItem );
         } else {
             setAutosizeTextSize( textView, (int)textSize );
-            textView.setTextColor( isEnabled ? enabledTextColor : TEXT_COLOR_DISABLED );
+            textView.setTextColor( isEnabled && isSelectable( itemIndex ) ? enabledTextColor : TEXT_COLOR_DISABLED );
         }
         if( isTextBold )
             textView.setTypeface( textView.getTypeface(), Typeface.BOLD );
@@ -793,16 +1552,147 @@ public class ScrollPicker extends LinearLayout {
             case INT:
                 textView.setText( "" + getIntItems().get( itemIndex ) );
                 break;
+            case IMAGE:
             case OTHER:
                 textView.setText( items.get( itemIndex ).toString() );
                 break;
         }
     }
 
+    protected void onListScrollChanged() {
+        loadVisibleImages();
+        updateWheelTransforms();
+    }
+
+    // only the rows that can be seen get transformed, the others get theirs by the time they scroll in
+    protected void updateWheelTransforms() {
+        if( !isInited || wheelEffect == WheelEffect.NONE )
+            return;
+        float selectorPosition = (float)scrollView.getScrollY() / cellHeight; // the position of the item at the selector, fractional while scrolling
+        float edgeDistance = spaceCellCount + 1; // how many rows there are from the selector to the edge
+        int firstPosition = Math.max( 0, (int)selectorPosition - spaceCellCount - 1 );
+        int lastPosition = Math.min( getPositionCount() - 1, (int)selectorPosition + spaceCellCount + 1 );
+        for( int i = firstPosition; i <= lastPosition; ++i )
+            applyWheelTransform( textViews.get( getItemIndexAt( i ) ), ( i - selectorPosition ) / edgeDistance );
+    }
+
+    // distance: how far the row is from the selector, -1 is at the top edge, 1 is at the bottom
+    protected void applyWheelTransform( View row, float distance ) {
+        float absDistance = Math.min( 1, Math.abs( distance ) );
+        row.setAlpha( 1 - ( 1 - WHEEL_EDGE_ALPHA ) * absDistance );
+        float scale;
+        switch( wheelEffect ) {
+            case CYLINDER:
+                row.setRotationX( -Math.max( -1, Math.min( 1, distance ) ) * CYLINDER_EDGE_ROTATION_DEGREES ); // the rows face away from the center
+                scale = 1 - ( 1 - CYLINDER_EDGE_SCALE ) * absDistance;
+                break;
+            case MAGNIFIER:
+            default:
+                row.setRotationX( 0 );
+                scale = 1 - ( 1 - MAGNIFIER_EDGE_SCALE ) * absDistance;
+                break;
+        }
+        row.setScaleX( scale );
+        row.setScaleY( scale );
+    }
+
+    protected void resetWheelTransforms() {
+        if( textViews == null )
+            return;
+        for( AppCompatTextView textView : textViews ) {
+            textView.setAlpha( 1 );
+            textView.setRotationX( 0 );
+            textView.setScaleX( 1 );
+            textView.setScaleY( 1 );
+        }
+    }
+
+    // only the visible rows and the ones within a page from them hold on to their images, the rest is left to the cache
+    protected void loadVisibleImages() {
+        if( !isInited || listItemType != ListItemType.IMAGE )
+            return;
+        int centerPosition = scrollView.getScrollY() / cellHeight;
+        int firstPosition = Math.max( 0, centerPosition - spaceCellCount - shownItemCount );
+        int lastPosition = Math.min( getPositionCount() - 1, centerPosition + spaceCellCount + shownItemCount );
+        if( firstPosition == imageWindowFirstPosition && lastPosition == imageWindowLastPosition )
+            return;
+        for( int i = imageWindowFirstPosition; i <= imageWindowLastPosition; ++i )
+            if( i < firstPosition || i > lastPosition )
+                releaseImage( getItemIndexAt( i ) );
+        for( int i = firstPosition; i <= lastPosition; ++i )
+            if( i < imageWindowFirstPosition || i > imageWindowLastPosition )
+                requestImage( getItemIndexAt( i ) );
+        imageWindowFirstPosition = firstPosition;
+        imageWindowLastPosition = lastPosition;
+    }
+
+    // the rows are about to be thrown away, we only need to stop their pending loads
+    protected void releaseImages() {
+        if( textViews != null )
+            for( int i = imageWindowFirstPosition; i <= imageWindowLastPosition; ++i )
+                cancelImageRequest( textViews.get( getItemIndexAt( i ) ) );
+        imageWindowFirstPosition = 0;
+        imageWindowLastPosition = -1;
+    }
+
+    // the positions are about to change, so the rows give back their images, the new window gets loaded after that
+    protected void releaseImageWindow() {
+        if( textViews != null && listItemType == ListItemType.IMAGE )
+            for( int i = imageWindowFirstPosition; i <= imageWindowLastPosition; ++i )
+                releaseImage( getItemIndexAt( i ) );
+        imageWindowFirstPosition = 0;
+        imageWindowLastPosition = -1;
+    }
+
+    protected void requestImage( int itemIndex ) {
+        final AppCompatTextView textView = textViews.get( itemIndex );
+        final ImageItem item = (ImageItem)items.get( itemIndex );
+        textView.setTag( ImageLoader.getInstance( context ).load( item, getImageHeight(), new ImageLoader.OnImageLoadedListener() {
+            @Override
+            public void onImageLoaded( Bitmap bitmap ) {
+                textView.setTag( null );
+                setImage( textView, item, bitmap );
+            }
+        } ) );
+    }
+
+    protected void releaseImage( int itemIndex ) {
+        AppCompatTextView textView = textViews.get( itemIndex );
+        cancelImageRequest( textView );
+        setText( itemIndex, textView ); // drops the reference to the bitmap, the cache decides whether to keep it
+    }
+
+    protected void cancelImageRequest( AppCompatTextView textView ) {
+        Object request = textView.getTag();
+        if( request != null ) {
+            ( (ImageLoader.Request)request ).cancel();
+            textView.setTag( null );
+        }
+    }
+
+    protected void setImage( AppCompatTextView textView, ImageItem item, Bitmap bitmap ) {
+        int imageHeight = getImageHeight();
+        BitmapDrawable drawable = new BitmapDrawable( getResources(), bitmap );
+        drawable.setBounds( 0, 0, imageHeight * bitmap.getWidth() / bitmap.getHeight(), imageHeight );
+        SpannableStringBuilder text = new SpannableStringBuilder( IMAGE_SPAN_PLACEHOLDER );
+        text.setSpan( new ImageSpan( drawable, ImageSpan.ALIGN_BOTTOM ), 0, IMAGE_SPAN_PLACEHOLDER.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE );
+        if( item.getLabel() != null )
+            text.append( ' ' ).append( item.getLabel() );
+        textView.setText( text );
+    }
+
+    protected int getImageHeight() {
+        return Math.max( 1, (int)( cellHeight * IMAGE_HEIGHT_RATIO ) );
+    }
+
+    // we never end up on an item outside of the selectable range, we scroll to the nearest selectable one instead
     protected void scrollYBy( int scrollYby ) {
-        scrollYTo.set( scrollYTo.get() + scrollYby );
+        if( getPositionCount() == 0 ) // everything is filtered out
+            return;
+        int position = clampToSelectablePositions( ( scrollYTo.get() + scrollYby ) / cellHeight );
+        scrollYTo.set( position * cellHeight );
         scrollYTo( scrollYTo.get() );
-        selectItem( scrollYTo.get() / cellHeight );
+        selectItem( getItemIndexAt( position ) );
     }
 
     protected void selectItem( int newIndex ) {
@@ -812,15 +1702,59 @@ public class ScrollPicker extends LinearLayout {
 
     private void selectNewItem( int newIndex ) {
         validateIndex( newIndex );
+        int previousIndex = selectedItemIndex;
         selectedItemIndex = newIndex;
         setContentDescription( items.get(selectedItemIndex).toString() );
-        if( !isExternalValueChange ) {
-            for( OnValueChangeListener l : onValueChangeListeners )
-                sendOnValueChanged( newIndex, l );
+        if( !isExternalValueChange && !isAutoRepeating && !isScrollEventStepping )
+            notifyOnValueChanged( newIndex );
+        if( getPositionOf( newIndex ) >= 0 )
+            scrollYTo.set( getPositionOf( newIndex ) * cellHeight );
+        // only the previously and the newly selected rows' styles change
+        updateTextViewsStyle( previousIndex, previousIndex );
+        updateTextViewsStyle( newIndex, newIndex );
+        updateSelectedSection();
+    }
+
+    protected void updateSelectedSection() {
+        int sectionIndex = getSectionIndexOf( selectedItemIndex );
+        if( sectionIndex != selectedSectionIndex ) {
+            selectedSectionIndex = sectionIndex;
+            invalidateSectionIndicator();
         }
-        scrollYTo.set( newIndex * cellHeight );
-        if( isInited )
-            updateTextViewsStyle();
+    }
+
+    // the last section starting at or before the index, empty sections start at the same index as the next one so they are skipped
+    protected int getSectionIndexOf( int index ) {
+        if( sectionStartIndices == null || sectionStartIndices.length == 0 )
+            return -1;
+        int low = 0;
+        int high = sectionStartIndices.length;
+        while( low < high ) {
+            int middle = ( low + high ) >>> 1;
+            if( sectionStartIndices[ middle ] <= index )
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low - 1;
+    }
+
+    protected void validateSectionIndex( int sectionIndex ) {
+        if( sectionIndex < 0 || sectionIndex >= getSectionCount() )
+            throw new WrongValueException( String.format( "Tried to use invalid section index %s.", sectionIndex ) );
+    }
+
+    protected void notifyOnValueChanged( int newIndex ) {
+        OnValueChangeListener[] listeners = onValueChangeListeners; // a listener may add or remove listeners, we stay on this snapshot
+        for( int i = 0; i < listeners.length; ++i )
+            sendOnValueChanged( newIndex, listeners[ i ] );
+    }
+
+    protected int indexOfOnValueChangedListener( OnValueChangeListener onValueChangeListener ) {
+        for( int i = 0; i < onValueChangeListeners.length; ++i )
+            if( onValueChangeListeners[ i ] == onValueChangeListener )
+                return i;
+        return -1;
     }
 
     // if we use the Int implementation, send the Value itself, otherwise send the index of the selected value
@@ -828,11 +1762,120 @@ public class ScrollPicker extends LinearLayout {
         l.onValueChange( getValueForIndex( newIndex ) );
     }
 
+    protected boolean isFiltered() {
+        return itemFilter != null || filterQuery != null;
+    }
+
+    protected void onFilterChanged( boolean isNarrowing ) {
+        if( !areItemsSet )
+            return;
+        if( isInited ) {
+            finishScrollingImmediately(); // with the old positions
+            releaseImageWindow();
+        }
+        applyFilter( isNarrowing, isInited );
+        if( !isInited )
+            return;
+
+        int index = clampToSelectableRange( selectedItemIndex );
+        if( getPositionOf( index ) >= 0 )
+            selectItem( index ); // the selected item got filtered out, we move on to the nearest matching one
+        addInitialValueScroll(); // the rows' visibility changes need a layout before we can scroll to the new position
+        itemsLayout.requestLayout();
+    }
+
+    // when narrowing, the new matches are among the old ones, so only those have to be checked again
+    protected void applyFilter( boolean isNarrowing, boolean isUpdatingRows ) {
+        if( !isFiltered() ) {
+            if( filteredIndices != null && isUpdatingRows )
+                for( AppCompatTextView textView : textViews )
+                    textView.setVisibility( VISIBLE );
+            filteredIndices = null;
+            filteredCount = 0;
+            return;
+        }
+        if( filterQuery != null && searchTexts == null )
+            initSearchTexts();
+        if( isNarrowing ) {
+            int newCount = 0;
+            for( int i = 0; i < filteredCount; ++i ) {
+                int index = filteredIndices[ i ];
+                if( matchesFilter( index ) )
+                    filteredIndices[ newCount++ ] = index;
+                else if( isUpdatingRows )
+                    textViews.get( index ).setVisibility( GONE );
+            }
+            filteredCount = newCount;
+        } else {
+            if( filteredIndices == null || filteredIndices.length != items.size() )
+                filteredIndices = new int[ items.size() ];
+            filteredCount = 0;
+            for( int i = 0; i < items.size(); ++i ) {
+                boolean isMatching = matchesFilter( i );
+                if( isMatching )
+                    filteredIndices[ filteredCount++ ] = i;
+                if( isUpdatingRows )
+                    textViews.get( i ).setVisibility( isMatching ? VISIBLE : GONE );
+            }
+        }
+    }
+
+    protected boolean matchesFilter( int index ) {
+        if( filterQuery != null )
+            return searchTexts[ index ].contains( filterQuery );
+        return itemFilter.matches( items.get( index ) );
+    }
+
+    protected void initSearchTexts() {
+        Locale locale = Locale.getDefault();
+        searchTexts = new String[ items.size() ];
+        for( int i = 0; i < items.size(); ++i )
+            searchTexts[ i ] = items.get( i ).toString().toLowerCase( locale );
+    }
+
+    protected int getPositionCount() {
+        return filteredIndices == null ? items.size() : filteredCount;
+    }
+
+    protected int getItemIndexAt( int position ) {
+        return filteredIndices == null ? position : filteredIndices[ position ];
+    }
+
+    // -1 if the item is filtered out
+    protected int getPositionOf( int index ) {
+        if( filteredIndices == null )
+            return index;
+        int position = getLowerBoundPosition( index );
+        return position < filteredCount && filteredIndices[ position ] == index ? position : -1;
+    }
+
+    // the position of the matching item with the closest index
+    protected int getNearestPositionOf( int index ) {
+        int position = getLowerBoundPosition( index );
+        if( position == filteredCount || ( position > 0 && index - filteredIndices[ position - 1 ] < filteredIndices[ position ] - index ) )
+            --position;
+        return position;
+    }
+
+    // the first position whose index is not less than the given one, binary search on the ascending filtered indices
+    protected int getLowerBoundPosition( int index ) {
+        int low = 0;
+        int high = filteredCount;
+        while( low < high ) {
+            int middle = ( low + high ) >>> 1;
+            if( filteredIndices[ middle ] < index )
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
     protected int getValueForIndex( int index ) {
         validateIndex( index );
-        return listItemType == ListItemType.OTHER ?
-            index :
-            getIntItems().get( index );
+        return listItemType == ListItemType.INT ?
+            getIntItems().get( index ) :
+            index;
     }
 
     private void validateIndex( int index ) {
@@ -844,8 +1887,58 @@ public class ScrollPicker extends LinearLayout {
         return (ArrayList< Integer >)items;
     }
 
+    protected static class SavedState extends BaseSavedState {
+
+        int selectedItemIndex;
+        float scrollOffset;
+        boolean hasIntRange; // the items can be recreated from the range without the app having to set them again
+        int intRangeFrom, intRangeTo;
+
+        SavedState( Parcelable superState ) {
+            super( superState );
+        }
+
+        SavedState( Parcel in ) {
+            super( in );
+            selectedItemIndex = in.readInt();
+            scrollOffset = in.readFloat();
+            hasIntRange = in.readInt() != 0;
+            intRangeFrom = in.readInt();
+            intRangeTo = in.readInt();
+        }
+
+        @Override
+        public void writeToParcel( Parcel out, int flags ) {
+            super.writeToParcel( out, flags );
+            out.writeInt( selectedItemIndex );
+            out.writeFloat( scrollOffset );
+            out.writeInt( hasIntRange ? 1 : 0 );
+            out.writeInt( intRangeFrom );
+            out.writeInt( intRangeTo );
+        }
+
+        public static final Parcelable.Creator< SavedState > CREATOR = new Parcelable.Creator< SavedState >() {
+            @Override
+            public SavedState createFromParcel( Parcel in ) {
+                return new SavedState( in );
+            }
+
+            @Override
+            public SavedState[] newArray( int size ) {
+                return new SavedState[ size ];
+            }
+        };
+    }
+
+    /**
+     * Decides which items are displayed, see {@link #setFilter(ItemFilter)}.
+     */
+    public interface ItemFilter {
+        boolean matches( Object item );
+    }
+
     enum ListItemType {
-        INT, OTHER
+        INT, OTHER, IMAGE
     }
 
     public interface OnValueChangeListener {
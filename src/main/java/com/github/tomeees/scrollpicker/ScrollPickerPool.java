@@ -0,0 +1,102 @@
+package com.github.tomeees.scrollpicker;
+
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.os.Looper;
+import android.os.MessageQueue;
+
+import java.util.ArrayDeque;
+
+/**
+ * Creates {@link ScrollPicker}s ahead of time while the main thread is idle, so that later screens can take ready instances
+ * instead of paying for the inflation and attribute resolving during their first layout.
+ * <p>
+ * The pooled pickers are created without xml attributes, so they have to be configured with their setters after {@link #obtain(Context)}.
+ * The rows are built with the screen's context after obtaining, the picker's inner scroll view keeps the application context though.
+ * Must be used from the main thread.
+ * </p>
+ */
+public class ScrollPickerPool {
+
+    protected static final int MAX_SIZE_DEFAULT = 8;
+
+    protected final Context applicationContext;
+    protected final ArrayDeque< ScrollPicker > pickers = new ArrayDeque<>();
+    protected final int maxSize;
+    protected int prewarmCount; // how many more pickers to create in the upcoming idle times
+    protected boolean isIdleHandlerAdded = false;
+
+    protected final MessageQueue.IdleHandler idleHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() { // one picker per idle time, so we never hold up the main thread for long
+            if( prewarmCount > 0 && pickers.size() < maxSize ) {
+                pickers.add( createPicker() );
+                --prewarmCount;
+            }
+            isIdleHandlerAdded = prewarmCount > 0 && pickers.size() < maxSize;
+            return isIdleHandlerAdded;
+        }
+    };
+
+    public ScrollPickerPool( Context context ) {
+        this( context, MAX_SIZE_DEFAULT );
+    }
+
+    /**
+     * @param maxSize How many ready pickers the pool can hold at most.
+     */
+    public ScrollPickerPool( Context context, int maxSize ) {
+        this.applicationContext = context.getApplicationContext();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Schedules the creation of pickers for the upcoming times when the main thread is idle, e.g. call it from the screen before the one with the pickers.
+     *
+     * @param count How many pickers to create. The pool doesn't grow above its max size.
+     */
+    public void prewarm( int count ) {
+        prewarmCount = Math.max( prewarmCount, count - pickers.size() );
+        if( prewarmCount > 0 && !isIdleHandlerAdded ) {
+            isIdleHandlerAdded = true;
+            Looper.myQueue().addIdleHandler( idleHandler );
+        }
+    }
+
+    /**
+     * Returns a ready picker, or a new one if the pool is empty.
+     *
+     * @param context The context of the screen that the picker will be part of.
+     */
+    public ScrollPicker obtain( Context context ) {
+        ScrollPicker picker = pickers.poll();
+        if( picker == null )
+            return new ScrollPicker( context );
+        ( (MutableContextWrapper)picker.getContext() ).setBaseContext( context ); // the picker and the rows it builds from now on use the screen's context
+        return picker;
+    }
+
+    /**
+     * Returns how many ready pickers there are in the pool.
+     */
+    public int getAvailableCount() {
+        return pickers.size();
+    }
+
+    /**
+     * Drops the ready pickers and cancels the scheduled creations.
+     */
+    public void clear() {
+        prewarmCount = 0;
+        pickers.clear();
+        if( isIdleHandlerAdded ) {
+            Looper.myQueue().removeIdleHandler( idleHandler );
+            isIdleHandlerAdded = false;
+        }
+    }
+
+    // not tied to any screen until obtained, the base context gets swapped then
+    protected ScrollPicker createPicker() {
+        return new ScrollPicker( new MutableContextWrapper( applicationContext ) );
+    }
+}
@@ -3,21 +3,29 @@ package com.github.tomeees.scrollpicker;
 import androidx.databinding.BindingAdapter;
 import androidx.databinding.InverseBindingAdapter;
 import androidx.databinding.InverseBindingListener;
+import androidx.databinding.adapters.ListenerUtil;
 
 // binding to the 'value' of the ScrollPicker, which is the selected item's index in case of ListItemType.OTHER, and
 // the selected int item in case of ListItemType.INT
 public class ScrollPickerValueBinding {
 
+    // data binding calls this again on every rebind (e.g. in recycled layouts), so we replace the listener added the last time instead of piling them up
     @BindingAdapter( value = "valueAttrChanged" )
     public static void setListener( ScrollPicker scrollPicker, final InverseBindingListener listener ) {
+        ScrollPicker.OnValueChangeListener newListener = null;
         if( listener != null ) {
-            scrollPicker.addOnValueChangedListener( new ScrollPicker.OnValueChangeListener() {
+            newListener = new ScrollPicker.OnValueChangeListener() {
                 @Override
                 public void onValueChange( int newValue ) {
                     listener.onChange();
                 }
-            } );
+            };
         }
+        ScrollPicker.OnValueChangeListener oldListener = ListenerUtil.trackListener( scrollPicker, newListener, R.id.scrollPickerValueBindingListener );
+        if( oldListener != null )
+            scrollPicker.removeOnValueChangedListener( oldListener );
+        if( newListener != null )
+            scrollPicker.addOnValueChangedListener( newListener );
     }
 
     @InverseBindingAdapter( attribute = "value" )
@@ -0,0 +1,25 @@
+package com.github.tomeees.scrollpicker;
+
+/**
+ * How the {@link ScrollPicker}'s rows are transformed depending on their distance from the selector.
+ * The transformations are applied as view properties (scale, alpha, rotation), so they don't cause any measuring or layout while scrolling.
+ * <p> {@link WheelEffect#NONE} </p>
+ * <p> {@link WheelEffect#CYLINDER} </p>
+ * <p> {@link WheelEffect#MAGNIFIER} </p>
+ */
+public enum WheelEffect {
+    /**
+     * Every row is displayed the same way.
+     */
+    NONE,
+
+    /**
+     * The rows rotate away and fade towards the edges like on the surface of a 3D cylinder, similar to the iOS picker wheel.
+     */
+    CYLINDER,
+
+    /**
+     * The rows shrink and fade towards the edges, the selected one is displayed at full size.
+     */
+    MAGNIFIER
+}